@@ -1,10 +1,6 @@
 package com.example.demo.service;
 
-import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.ollama.OllamaChatModel;
-import java.time.Duration;
 import java.util.List;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -12,31 +8,21 @@ import reactor.core.publisher.Mono;
 public class AgentService {
 
   private final RagService ragService;
-  private final ChatLanguageModel model;
+  private final AiClient aiClient;
 
-  public AgentService(
-      RagService ragService,
-      @Value("${ai.api.url:http://localhost:11434}") String baseUrl,
-      @Value("${ai.model:phi3:mini}") String modelName) {
+  public AgentService(RagService ragService, AiClient aiClient) {
     this.ragService = ragService;
-    this.model =
-        OllamaChatModel.builder()
-            .baseUrl(baseUrl)
-            .modelName(modelName)
-            .timeout(Duration.ofSeconds(20))
-            .build();
+    this.aiClient = aiClient;
   }
 
+  /**
+   * Generation goes through {@link AiClient#complete} so the request carries {@code keep_alive};
+   * otherwise every agent call would reset the model's unload timer to Ollama's default.
+   */
   public Mono<String> ask(String question) {
     return ragService
         .retrieveContexts(question)
-        .flatMap(
-            contexts ->
-                Mono.fromCallable(
-                    () -> {
-                      var prompt = buildPrompt(question, contexts);
-                      return model.generate(prompt);
-                    }));
+        .flatMap(contexts -> aiClient.complete(buildPrompt(question, contexts)));
   }
 
   private String buildPrompt(String question, List<String> contexts) {
@@ -16,20 +16,60 @@ public class AiClient {
   private final WebClient aiWebClient;
   private final String apiKey;
   private final String model;
+  private final String keepAlive;
 
   public AiClient(
       WebClient aiWebClient,
       @Value("${ai.api.key:}") String apiKey,
-      @Value("${ai.model:mistral}") String model) {
+      @Value("${ai.model:mistral}") String model,
+      @Value("${ai.keep-alive:30m}") String keepAlive) {
     this.aiWebClient = aiWebClient;
     this.apiKey = apiKey;
     this.model = model;
+    this.keepAlive = keepAlive;
+  }
+
+  /**
+   * Asks Ollama to load the chat model and keep it resident. An empty message list loads the model
+   * without generating. No-op for hosted providers.
+   */
+  public Mono<Void> preload() {
+    if (apiKey != null && !apiKey.isBlank()) {
+      return Mono.empty();
+    }
+    var body = Map.of("model", model, "messages", List.of(), "stream", false, "keep_alive", keepAlive);
+    return aiWebClient
+        .post()
+        .uri("/api/chat")
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .retrieve()
+        .toBodilessEntity()
+        .then();
   }
 
   /**
    * Placeholder call for now. Keeps the app running without a real provider.
    */
   public Mono<String> generate(String prompt) {
+    if (apiKey == null || apiKey.isBlank()) {
+      return complete(prompt)
+          .onErrorResume(
+              err ->
+                  Mono.just(
+                      "Local AI call failed (check ai.api.url/model). Fallback response. Prompt: "
+                          + prompt));
+    }
+    return complete(prompt)
+        .onErrorResume(
+            err ->
+                Mono.just(
+                    "AI call failed (check ai.api.url/key/model). Showing fallback. Prompt: " + prompt));
+  }
+
+  /** Same request as {@link #generate}, but provider errors and timeouts propagate. */
+  public Mono<String> complete(String prompt) {
     var messages =
         List.of(
             Map.of("role", "system", "content", "You are a concise assistant."),
@@ -37,7 +77,8 @@ public class AiClient {
 
     // If no API key, assume local provider like Ollama on ai.api.url.
     if (apiKey == null || apiKey.isBlank()) {
-      var body = Map.of("model", model, "messages", messages, "stream", false);
+      var body =
+          Map.of("model", model, "messages", messages, "stream", false, "keep_alive", keepAlive);
       return aiWebClient
           .post()
           .uri("/api/chat")
@@ -47,12 +88,7 @@ public class AiClient {
           .retrieve()
           .bodyToMono(OllamaChatResponse.class)
           .timeout(Duration.ofSeconds(12))
-          .map(this::extractOllamaAnswer)
-          .onErrorResume(
-              err ->
-                  Mono.just(
-                      "Local AI call failed (check ai.api.url/model). Fallback response. Prompt: "
-                          + prompt));
+          .map(this::extractOllamaAnswer);
     }
 
     var body =
@@ -70,11 +106,7 @@ public class AiClient {
         .retrieve()
         .bodyToMono(ChatCompletionResponse.class)
         .timeout(Duration.ofSeconds(12))
-        .map(this::extractAnswer)
-        .onErrorResume(
-            err ->
-                Mono.just(
-                    "AI call failed (check ai.api.url/key/model). Showing fallback. Prompt: " + prompt));
+        .map(this::extractAnswer);
   }
 
   private String extractAnswer(ChatCompletionResponse response) {
@@ -13,16 +13,20 @@ public class EmbeddingClient {
 
   private final WebClient aiWebClient;
   private final String embedModel;
+  private final String keepAlive;
 
   public EmbeddingClient(
-      WebClient aiWebClient, @Value("${ai.embed.model:nomic-embed-text}") String embedModel) {
+      WebClient aiWebClient,
+      @Value("${ai.embed.model:nomic-embed-text}") String embedModel,
+      @Value("${ai.keep-alive:30m}") String keepAlive) {
     this.aiWebClient = aiWebClient;
     this.embedModel = embedModel;
+    this.keepAlive = keepAlive;
   }
 
   public Mono<float[]> embed(String text) {
-    // Ollama embeddings endpoint expects "prompt"
-    var body = Map.of("model", embedModel, "prompt", text);
+    // Ollama embeddings endpoint expects "prompt"; keep_alive keeps the model loaded between calls
+    var body = Map.of("model", embedModel, "prompt", text, "keep_alive", keepAlive);
     return aiWebClient
         .post()
         .uri("/api/embeddings")
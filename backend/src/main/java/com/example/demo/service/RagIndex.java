@@ -0,0 +1,286 @@
+package com.example.demo.service;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.BaseRedisAsyncCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.output.NestedMultiOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Owns the RediSearch vector index. FT.INFO/FT.CREATE run at most once per process; the resulting
+ * dimension and field schema are cached for the lifetime of the bean.
+ */
+@Component
+public class RagIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(RagIndex.class);
+
+  private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(10);
+
+  private final StringRedisTemplate redisTemplate;
+  private final String indexName;
+  private final AtomicReference<IndexSchema> schema = new AtomicReference<>();
+
+  public RagIndex(StringRedisTemplate redisTemplate, @Value("${rag.index:rag:docs}") String indexName) {
+    this.redisTemplate = redisTemplate;
+    this.indexName = indexName;
+  }
+
+  public String name() {
+    return indexName;
+  }
+
+  /**
+   * Reads an existing index with FT.INFO and caches its schema, unless that already happened in
+   * this process. Returns null if the index does not exist yet: creating it needs the embedding
+   * dimension, so that is left to {@link #ensure}.
+   */
+  public IndexSchema verify() {
+    var cached = schema.get();
+    if (cached != null) {
+      return cached;
+    }
+    synchronized (schema) {
+      cached = schema.get();
+      if (cached == null) {
+        cached = info();
+        schema.set(cached);
+      }
+      return cached;
+    }
+  }
+
+  /**
+   * Verifies the index exists (creating it for {@code dim} if missing) unless that already happened
+   * in this process. Failures are not cached so the next caller retries.
+   */
+  public IndexSchema ensure(int dim) {
+    var cached = schema.get();
+    if (cached != null) {
+      return cached;
+    }
+    synchronized (schema) {
+      cached = schema.get();
+      if (cached == null) {
+        cached = load(dim);
+        schema.set(cached);
+        if (cached.dim() > 0 && cached.dim() != dim) {
+          log.warn(
+              "Index {} has DIM {} but embeddings have {}; those chunks will not be ingested",
+              indexName,
+              cached.dim(),
+              dim);
+        }
+      }
+      return cached;
+    }
+  }
+
+  /** FT.INFO for the index, or null if it does not exist. */
+  private IndexSchema info() {
+    try {
+      return parseInfo(execute(Search.INFO, bytes(indexName)));
+    } catch (RedisCommandExecutionException e) {
+      if (!isMissingIndex(e)) {
+        throw e;
+      }
+      return null;
+    }
+  }
+
+  private IndexSchema load(int dim) {
+    var existing = info();
+    if (existing != null) {
+      return existing;
+    }
+    try {
+      execute(
+          Search.CREATE,
+          bytes(indexName),
+          bytes("ON"),
+          bytes("HASH"),
+          bytes("PREFIX"),
+          bytes("1"),
+          bytes("rag:doc:"),
+          bytes("SCHEMA"),
+          bytes("content"),
+          bytes("TEXT"),
+          bytes("source"),
+          bytes("TAG"),
+          bytes("embedding"),
+          bytes("VECTOR"),
+          bytes("HNSW"),
+          bytes("6"),
+          bytes("TYPE"),
+          bytes("FLOAT32"),
+          bytes("DIM"),
+          bytes(String.valueOf(dim)),
+          bytes("DISTANCE_METRIC"),
+          bytes("COSINE"));
+    } catch (RedisCommandExecutionException e) {
+      // Another instance created it between our FT.INFO and FT.CREATE.
+      if (!messageContains(e, "already exists")) {
+        throw e;
+      }
+      return parseInfo(execute(Search.INFO, bytes(indexName)));
+    }
+    var fields = new LinkedHashMap<String, String>();
+    fields.put("content", "TEXT");
+    fields.put("source", "TAG");
+    fields.put("embedding", "VECTOR");
+    return new IndexSchema(dim, fields);
+  }
+
+  /**
+   * Runs a RediSearch command on the native Lettuce connection with a nested output, so the
+   * mixed bulk/integer/array replies decode as lists. Server errors surface as {@link
+   * RedisCommandExecutionException}.
+   */
+  List<Object> execute(Search keyword, byte[]... args) {
+    return redisTemplate.execute(
+        (RedisCallback<List<Object>>)
+            connection -> {
+              var commandArgs = new CommandArgs<>(ByteArrayCodec.INSTANCE);
+              for (var arg : args) {
+                commandArgs.add(arg);
+              }
+              var future =
+                  asyncCommands(connection)
+                      .dispatch(
+                          keyword, new NestedMultiOutput<>(ByteArrayCodec.INSTANCE), commandArgs);
+              try {
+                return future.get(COMMAND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+              } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                  throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+              } catch (TimeoutException e) {
+                throw new IllegalStateException(keyword.command + " timed out", e);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(keyword.command + " interrupted", e);
+              }
+            });
+  }
+
+  /**
+   * The template hands callbacks a wrapping connection, so unwrap through {@code
+   * getNativeConnection()} rather than checking for {@code LettuceConnection}.
+   */
+  @SuppressWarnings("unchecked")
+  private static BaseRedisAsyncCommands<byte[], byte[]> asyncCommands(RedisConnection connection) {
+    Object nativeConnection = connection.getNativeConnection();
+    if (nativeConnection instanceof StatefulRedisConnection<?, ?> stateful) {
+      return (BaseRedisAsyncCommands<byte[], byte[]>) stateful.async();
+    }
+    if (nativeConnection instanceof BaseRedisAsyncCommands<?, ?> commands) {
+      return (BaseRedisAsyncCommands<byte[], byte[]>) commands;
+    }
+    throw new IllegalStateException("RediSearch commands need a Lettuce connection");
+  }
+
+  /** RediSearch reports "Unknown index name" (older) or "<name>: no such index" (newer). */
+  static boolean isMissingIndex(RedisCommandExecutionException e) {
+    return messageContains(e, "unknown index name") || messageContains(e, "no such index");
+  }
+
+  private static boolean messageContains(Exception e, String fragment) {
+    return e.getMessage() != null && e.getMessage().toLowerCase(Locale.ROOT).contains(fragment);
+  }
+
+  /**
+   * Reads field types and the vector DIM out of the FT.INFO reply. The reply is a flat key/value
+   * list whose "attributes" entry holds one key/value list per field.
+   */
+  static IndexSchema parseInfo(Object info) {
+    var fields = new LinkedHashMap<String, String>();
+    int dim = -1;
+    if (info instanceof List<?> top) {
+      for (int i = 0; i < top.size() - 1; i += 2) {
+        if (!"attributes".equalsIgnoreCase(toString(top.get(i)))
+            || !(top.get(i + 1) instanceof List<?> attributes)) {
+          continue;
+        }
+        for (var attr : attributes) {
+          if (!(attr instanceof List<?> props)) {
+            continue;
+          }
+          String name = null;
+          String type = null;
+          for (int j = 0; j < props.size() - 1; j += 2) {
+            var key = toString(props.get(j));
+            var val = props.get(j + 1);
+            if ("attribute".equalsIgnoreCase(key)) {
+              name = toString(val);
+            } else if ("type".equalsIgnoreCase(key)) {
+              type = toString(val);
+            } else if ("dim".equalsIgnoreCase(key)) {
+              try {
+                dim = Integer.parseInt(toString(val));
+              } catch (NumberFormatException ignored) {
+                // leave dim unknown
+              }
+            }
+          }
+          if (name != null) {
+            fields.put(name, type != null ? type : "");
+          }
+        }
+      }
+    }
+    return new IndexSchema(dim, fields);
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String toString(Object obj) {
+    if (obj instanceof byte[] b) {
+      return new String(b, StandardCharsets.UTF_8);
+    }
+    return obj != null ? obj.toString() : "";
+  }
+
+  /** Vector dimension ({@code -1} if FT.INFO did not report one) and field name to type. */
+  public record IndexSchema(int dim, Map<String, String> fields) {}
+
+  enum Search implements ProtocolKeyword {
+    INFO("FT.INFO"),
+    CREATE("FT.CREATE"),
+    SEARCH("FT.SEARCH");
+
+    private final String command;
+    private final byte[] bytes;
+
+    Search(String command) {
+      this.command = command;
+      this.bytes = command.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public byte[] getBytes() {
+      return bytes;
+    }
+  }
+}
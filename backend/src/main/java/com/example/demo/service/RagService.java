@@ -6,7 +6,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.core.RedisCallback;
@@ -19,10 +20,12 @@ import reactor.core.scheduler.Schedulers;
 @Service
 public class RagService {
 
+  private static final Logger log = LoggerFactory.getLogger(RagService.class);
+
   private final EmbeddingClient embeddingClient;
   private final AiClient aiClient;
   private final StringRedisTemplate redisTemplate;
-  private final String indexName;
+  private final RagIndex ragIndex;
   private final int topK;
 
   /**
@@ -44,12 +47,12 @@ public class RagService {
       EmbeddingClient embeddingClient,
       AiClient aiClient,
       StringRedisTemplate redisTemplate,
-      @Value("${rag.index:rag:docs}") String indexName,
+      RagIndex ragIndex,
       @Value("${rag.top-k:3}") int topK) {
     this.embeddingClient = embeddingClient;
     this.aiClient = aiClient;
     this.redisTemplate = redisTemplate;
-    this.indexName = indexName;
+    this.ragIndex = ragIndex;
     this.topK = topK;
   }
 
@@ -61,7 +64,6 @@ public class RagService {
     if (chunks.isEmpty()) {
       return Mono.just("No content to ingest.");
     }
-    var ensured = new AtomicBoolean(false);
     return Flux.fromIterable(chunks)
         .flatMap(
             chunk ->
@@ -71,7 +73,9 @@ public class RagService {
                         vec ->
                             Mono.fromCallable(
                                     () -> {
-                                      ensureIndexOnce(vec.length, ensured);
+                                      if (!indexAccepts(vec.length)) {
+                                        return null;
+                                      }
                                       storeChunk(chunk, source, vec);
                                       return 1;
                                     })
@@ -103,58 +107,18 @@ public class RagService {
                         }));
   }
 
-  private void ensureIndexOnce(int dim, AtomicBoolean ensured) {
-    if (ensured.get()) {
-      return;
-    }
-    synchronized (ensured) {
-      if (ensured.get()) {
-        return;
-      }
-      ensureIndex(dim);
-      ensured.set(true);
-    }
-  }
-
-  private void ensureIndex(int dim) {
+  /**
+   * False when the index was built for a different vector size: such chunks would never match a
+   * query, so they are left out of the ingested count instead of being stored.
+   */
+  private boolean indexAccepts(int dim) {
     try {
-      redisTemplate.execute(
-          (RedisCallback<Void>)
-              conn -> {
-                try {
-                  conn.execute("FT.INFO", indexName.getBytes(StandardCharsets.UTF_8));
-                  return null;
-                } catch (Exception e) {
-                  // create the index if it does not exist
-                  conn.execute(
-                      "FT.CREATE",
-                      indexName.getBytes(StandardCharsets.UTF_8),
-                      "ON".getBytes(StandardCharsets.UTF_8),
-                      "HASH".getBytes(StandardCharsets.UTF_8),
-                      "PREFIX".getBytes(StandardCharsets.UTF_8),
-                      "1".getBytes(StandardCharsets.UTF_8),
-                      "rag:doc:".getBytes(StandardCharsets.UTF_8),
-                      "SCHEMA".getBytes(StandardCharsets.UTF_8),
-                      "content".getBytes(StandardCharsets.UTF_8),
-                      "TEXT".getBytes(StandardCharsets.UTF_8),
-                      "source".getBytes(StandardCharsets.UTF_8),
-                      "TAG".getBytes(StandardCharsets.UTF_8),
-                      "embedding".getBytes(StandardCharsets.UTF_8),
-                      "VECTOR".getBytes(StandardCharsets.UTF_8),
-                      "HNSW".getBytes(StandardCharsets.UTF_8),
-                      "6".getBytes(StandardCharsets.UTF_8),
-                      "TYPE".getBytes(StandardCharsets.UTF_8),
-                      "FLOAT32".getBytes(StandardCharsets.UTF_8),
-                      "DIM".getBytes(StandardCharsets.UTF_8),
-                      String.valueOf(dim).getBytes(StandardCharsets.UTF_8),
-                      "DISTANCE_METRIC".getBytes(StandardCharsets.UTF_8),
-                      "COSINE".getBytes(StandardCharsets.UTF_8));
-                  return null;
-                }
-              });
+      var schema = ragIndex.ensure(dim);
+      return schema.dim() <= 0 || schema.dim() == dim;
     } catch (Exception e) {
-      // Avoid failing startup/ingest if the reactive pipeline gets cancelled while blocking.
-      Thread.currentThread().interrupt();
+      // Keep storing chunks; the index picks up existing rag:doc: hashes once it is created.
+      log.warn("Could not verify index {}: {}", ragIndex.name(), e.getMessage());
+      return true;
     }
   }
 
@@ -190,63 +154,43 @@ public class RagService {
 
   private List<String> search(float[] embedding) {
     var vec = float32ToBytes(embedding);
-    return redisTemplate.execute(
-        (RedisCallback<List<String>>)
-            connection -> {
-              if (!(connection instanceof org.springframework.data.redis.connection.lettuce.LettuceConnection
-                  lettuceConnection)) {
-                return List.of();
-              }
-              var nativeConn =
-                  (io.lettuce.core.api.StatefulRedisConnection<byte[], byte[]>)
-                      lettuceConnection.getNativeConnection();
-              var args =
-                  new io.lettuce.core.protocol.CommandArgs<>(io.lettuce.core.codec.ByteArrayCodec.INSTANCE)
-                      .add(indexName.getBytes(StandardCharsets.UTF_8))
-                      .add(
-                          "*=>[KNN %d @embedding $vec_param]".formatted(Math.max(1, topK))
-                              .getBytes(StandardCharsets.UTF_8))
-                      .add("PARAMS".getBytes(StandardCharsets.UTF_8))
-                      .add("2".getBytes(StandardCharsets.UTF_8))
-                      .add("vec_param".getBytes(StandardCharsets.UTF_8))
-                      .add(vec)
-                      .add("RETURN".getBytes(StandardCharsets.UTF_8))
-                      .add("2".getBytes(StandardCharsets.UTF_8))
-                      .add("content".getBytes(StandardCharsets.UTF_8))
-                      .add("source".getBytes(StandardCharsets.UTF_8))
-                      .add("DIALECT".getBytes(StandardCharsets.UTF_8))
-                      .add("2".getBytes(StandardCharsets.UTF_8));
-
-              var output =
-                  new io.lettuce.core.output.NestedMultiOutput<>(
-                      io.lettuce.core.codec.ByteArrayCodec.INSTANCE);
-              io.lettuce.core.protocol.Command<byte[], byte[], List<Object>> command =
-                  new io.lettuce.core.protocol.Command<>(
-                      io.lettuce.core.protocol.CommandType.valueOf("FT.SEARCH"), output, args);
-              nativeConn.dispatch(command);
-              List<Object> result = command.getOutput().get();
-              if (result == null || result.size() < 2) {
-                return List.of();
-              }
+    var result =
+        ragIndex.execute(
+            RagIndex.Search.SEARCH,
+            ragIndex.name().getBytes(StandardCharsets.UTF_8),
+            "*=>[KNN %d @embedding $vec_param]".formatted(Math.max(1, topK))
+                .getBytes(StandardCharsets.UTF_8),
+            "PARAMS".getBytes(StandardCharsets.UTF_8),
+            "2".getBytes(StandardCharsets.UTF_8),
+            "vec_param".getBytes(StandardCharsets.UTF_8),
+            vec,
+            "RETURN".getBytes(StandardCharsets.UTF_8),
+            "2".getBytes(StandardCharsets.UTF_8),
+            "content".getBytes(StandardCharsets.UTF_8),
+            "source".getBytes(StandardCharsets.UTF_8),
+            "DIALECT".getBytes(StandardCharsets.UTF_8),
+            "2".getBytes(StandardCharsets.UTF_8));
+    if (result == null || result.size() < 2) {
+      return List.of();
+    }
 
-              var contexts = new ArrayList<String>();
-              for (int i = 1; i < result.size(); i += 2) {
-                if (i + 1 >= result.size()) {
-                  break;
-                }
-                var fieldsObj = result.get(i + 1);
-                if (fieldsObj instanceof List<?> fields) {
-                  for (int j = 0; j < fields.size() - 1; j += 2) {
-                    var name = toString(fields.get(j));
-                    var val = toString(fields.get(j + 1));
-                    if ("content".equals(name)) {
-                      contexts.add(val);
-                    }
-                  }
-                }
-              }
-              return contexts;
-            });
+    var contexts = new ArrayList<String>();
+    for (int i = 1; i < result.size(); i += 2) {
+      if (i + 1 >= result.size()) {
+        break;
+      }
+      var fieldsObj = result.get(i + 1);
+      if (fieldsObj instanceof List<?> fields) {
+        for (int j = 0; j < fields.size() - 1; j += 2) {
+          var name = toString(fields.get(j));
+          var val = toString(fields.get(j + 1));
+          if ("content".equals(name)) {
+            contexts.add(val);
+          }
+        }
+      }
+    }
+    return contexts;
   }
 
   private String buildPrompt(String question, List<String> contexts) {
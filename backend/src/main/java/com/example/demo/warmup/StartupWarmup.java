@@ -0,0 +1,166 @@
+package com.example.demo.warmup;
+
+import com.example.demo.service.AiClient;
+import com.example.demo.service.EmbeddingClient;
+import com.example.demo.service.RagIndex;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Pays the cold-start costs once, before traffic arrives: opens the Redis connection, loads the chat
+ * and embed models into Ollama, verifies the vector index and sends a few warmup requests. Steps run
+ * concurrently under a single time bound; {@link WarmupHealthIndicator} reports progress.
+ */
+@Component
+public class StartupWarmup {
+
+  private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+  private final AiClient aiClient;
+  private final EmbeddingClient embeddingClient;
+  private final RagIndex ragIndex;
+  private final StringRedisTemplate redisTemplate;
+  private final boolean enabled;
+  private final Duration timeout;
+  private final int embeddings;
+  private final int generations;
+
+  private final Map<String, String> steps = new LinkedHashMap<>();
+  private volatile long startedAt;
+  private volatile long finishedAt;
+  private volatile boolean timedOut;
+
+  public StartupWarmup(
+      AiClient aiClient,
+      EmbeddingClient embeddingClient,
+      RagIndex ragIndex,
+      StringRedisTemplate redisTemplate,
+      @Value("${warmup.enabled:true}") boolean enabled,
+      @Value("${warmup.timeout:60s}") Duration timeout,
+      @Value("${warmup.embeddings:3}") int embeddings,
+      @Value("${warmup.generations:1}") int generations) {
+    this.aiClient = aiClient;
+    this.embeddingClient = embeddingClient;
+    this.ragIndex = ragIndex;
+    this.redisTemplate = redisTemplate;
+    this.enabled = enabled;
+    this.timeout = timeout;
+    this.embeddings = Math.max(1, embeddings);
+    this.generations = Math.max(0, generations);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    startedAt = System.currentTimeMillis();
+    for (var name : new String[] {"redis", "chat", "embed", "index"}) {
+      record(name, "pending");
+    }
+
+    var redis =
+        step(
+            "redis",
+            Mono.fromCallable(() -> redisTemplate.execute((RedisCallback<String>) conn -> conn.ping()))
+                .subscribeOn(Schedulers.boundedElastic()));
+
+    var chat =
+        step(
+            "chat",
+            aiClient
+                .preload()
+                .thenMany(
+                    Flux.range(0, generations).flatMap(i -> aiClient.complete("Reply with OK.")))
+                .then(Mono.just("ok")));
+
+    // The first embedding also loads the embed model, so allow one retry past the client timeout.
+    var embed =
+        step(
+                "embed",
+                Flux.range(0, embeddings)
+                    .flatMap(i -> embeddingClient.embed("warmup " + i).retry(1))
+                    .last())
+            .cache();
+
+    // FT.INFO runs alongside the model loads; only FT.CREATE has to wait for the embedding size.
+    var index =
+        step(
+            "index",
+            Mono.fromCallable(ragIndex::verify)
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(
+                    embed
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(vec -> ragIndex.ensure(vec.length))));
+
+    Mono.when(redis, chat, embed, index)
+        .timeout(timeout)
+        .onErrorResume(
+            err -> {
+              timedOut = true;
+              return Mono.empty();
+            })
+        .doFinally(signal -> finish())
+        .subscribe();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public boolean isFinished() {
+    return finishedAt > 0;
+  }
+
+  public long elapsedMillis() {
+    if (startedAt == 0) {
+      return 0;
+    }
+    return (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+  }
+
+  public synchronized Map<String, String> steps() {
+    return new LinkedHashMap<>(steps);
+  }
+
+  private <T> Mono<T> step(String name, Mono<T> work) {
+    return work.doOnNext(v -> record(name, "ok"))
+        .onErrorResume(
+            err -> {
+              record(name, "failed: " + describe(err));
+              return Mono.empty();
+            });
+  }
+
+  private synchronized void record(String name, String status) {
+    steps.put(name, status);
+  }
+
+  private synchronized void finish() {
+    var unfinished = timedOut ? "timed out after " + timeout : "skipped";
+    steps.replaceAll((name, status) -> "pending".equals(status) ? unfinished : status);
+    finishedAt = System.currentTimeMillis();
+    log.info("Startup warmup finished in {} ms: {}", elapsedMillis(), steps);
+  }
+
+  private static String describe(Throwable err) {
+    if (err instanceof TimeoutException) {
+      return "timeout";
+    }
+    return err.getMessage() != null ? err.getMessage() : err.getClass().getSimpleName();
+  }
+}
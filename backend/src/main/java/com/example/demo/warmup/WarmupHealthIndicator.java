@@ -0,0 +1,31 @@
+package com.example.demo.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE until {@link StartupWarmup} has finished, then UP with per-step results.
+ * Failed steps do not hold readiness back; the request path retries them lazily.
+ */
+@Component("warmup")
+public class WarmupHealthIndicator implements HealthIndicator {
+
+  private final StartupWarmup warmup;
+
+  public WarmupHealthIndicator(StartupWarmup warmup) {
+    this.warmup = warmup;
+  }
+
+  @Override
+  public Health health() {
+    if (!warmup.isEnabled()) {
+      return Health.up().withDetail("enabled", false).build();
+    }
+    var builder = warmup.isFinished() ? Health.up() : Health.outOfService();
+    return builder
+        .withDetail("elapsedMs", warmup.elapsedMillis())
+        .withDetails(warmup.steps())
+        .build();
+  }
+}
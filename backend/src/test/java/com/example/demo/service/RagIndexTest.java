@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RagIndexTest {
+
+  @Test
+  void parseInfoReadsAttributesAndIntegerDim() {
+    // Shape of an FT.INFO reply decoded by NestedMultiOutput with ByteArrayCodec.
+    var info =
+        List.of(
+            bytes("index_name"),
+            bytes("rag:docs"),
+            bytes("index_options"),
+            List.of(),
+            bytes("attributes"),
+            List.of(
+                List.of(
+                    bytes("identifier"), bytes("content"),
+                    bytes("attribute"), bytes("content"),
+                    bytes("type"), bytes("TEXT"),
+                    bytes("WEIGHT"), bytes("1")),
+                List.of(
+                    bytes("identifier"), bytes("source"),
+                    bytes("attribute"), bytes("source"),
+                    bytes("type"), bytes("TAG"),
+                    bytes("SEPARATOR"), bytes(",")),
+                List.of(
+                    bytes("identifier"), bytes("embedding"),
+                    bytes("attribute"), bytes("embedding"),
+                    bytes("type"), bytes("VECTOR"),
+                    bytes("algorithm"), bytes("HNSW"),
+                    bytes("data_type"), bytes("FLOAT32"),
+                    bytes("dim"), 768L,
+                    bytes("distance_metric"), bytes("COSINE"))),
+            bytes("num_docs"),
+            42L);
+
+    var schema = RagIndex.parseInfo(info);
+
+    assertThat(schema.dim()).isEqualTo(768);
+    assertThat(schema.fields())
+        .containsExactly(
+            Map.entry("content", "TEXT"),
+            Map.entry("source", "TAG"),
+            Map.entry("embedding", "VECTOR"));
+  }
+
+  @Test
+  void parseInfoLeavesDimUnknownWithoutVectorField() {
+    var info =
+        List.of(
+            bytes("attributes"),
+            List.of(List.of(bytes("attribute"), bytes("content"), bytes("type"), bytes("TEXT"))));
+
+    var schema = RagIndex.parseInfo(info);
+
+    assertThat(schema.dim()).isEqualTo(-1);
+    assertThat(schema.fields()).containsExactly(Map.entry("content", "TEXT"));
+  }
+
+  @Test
+  void recognisesMissingIndexErrors() {
+    assertThat(RagIndex.isMissingIndex(error("Unknown Index name"))).isTrue();
+    assertThat(RagIndex.isMissingIndex(error("rag:docs: no such index"))).isTrue();
+    assertThat(RagIndex.isMissingIndex(error("Index already exists"))).isFalse();
+  }
+
+  private static RedisCommandExecutionException error(String message) {
+    return new RedisCommandExecutionException(message);
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+}
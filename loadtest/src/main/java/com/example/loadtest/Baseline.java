@@ -0,0 +1,109 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Stored results for each scenario ({@code <endpoint>.<mode>}), kept as a properties file. A run
+ * regresses when p50/p99 grow, or throughput drops, by more than the tolerance, or when the error
+ * rate rises by more than one percentage point. A scenario missing from the baseline is reported
+ * rather than passed, so a gate that checks nothing cannot look green.
+ */
+public class Baseline {
+
+  private final Properties values;
+
+  private Baseline(Properties values) {
+    this.values = values;
+  }
+
+  /** Loads the baseline, or returns an empty one if the file does not exist yet. */
+  public static Baseline load(Path path) throws IOException {
+    var values = new Properties();
+    if (Files.exists(path)) {
+      try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+        values.load(reader);
+      }
+    }
+    return new Baseline(values);
+  }
+
+  /**
+   * Writes {@code results} as the new baseline. Refuses if any scenario had no successful requests,
+   * since its zero latencies and throughput would make every later run look like a regression.
+   */
+  public static void save(Path path, List<LoadDriver.Result> results) throws IOException {
+    var unusable = results.stream().filter(r -> r.successes() == 0).map(Baseline::key).toList();
+    if (!unusable.isEmpty()) {
+      throw new IllegalStateException(
+          "Refusing to record a baseline: no successful requests in " + unusable);
+    }
+    var values = new Properties();
+    for (var result : results) {
+      var key = key(result);
+      values.setProperty(key + ".p50Ms", format(result.percentileMillis(50)));
+      values.setProperty(key + ".p99Ms", format(result.percentileMillis(99)));
+      values.setProperty(key + ".throughput", format(result.throughput()));
+      values.setProperty(key + ".errorRate", format(result.errorRate()));
+    }
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      values.store(writer, "Load-test baseline; regenerate with --record-baseline");
+    }
+  }
+
+  public boolean isEmpty() {
+    return values.isEmpty();
+  }
+
+  /** Human-readable regressions for {@code result}; empty if it is within tolerance. */
+  public List<String> regressions(LoadDriver.Result result, double tolerance) {
+    var found = new ArrayList<String>();
+    var key = key(result);
+    if (get(key + ".p50Ms") == null) {
+      found.add(key + " is missing from the baseline; re-record with --record-baseline=true");
+      return found;
+    }
+    checkCeiling(found, key + ".p50Ms", result.percentileMillis(50), 1 + tolerance, 0);
+    checkCeiling(found, key + ".p99Ms", result.percentileMillis(99), 1 + tolerance, 0);
+    checkCeiling(found, key + ".errorRate", result.errorRate(), 1, 0.01);
+    var throughput = get(key + ".throughput");
+    if (throughput != null && result.throughput() < throughput * (1 - tolerance)) {
+      found.add(
+          "%s.throughput %s < baseline %s".formatted(
+              key, format(result.throughput()), format(throughput)));
+    }
+    return found;
+  }
+
+  private void checkCeiling(
+      List<String> found, String key, double actual, double factor, double slack) {
+    var base = get(key);
+    if (base != null && actual > base * factor + slack) {
+      found.add("%s %s > baseline %s".formatted(key, format(actual), format(base)));
+    }
+  }
+
+  private Double get(String key) {
+    var raw = values.getProperty(key);
+    return raw != null ? Double.valueOf(raw) : null;
+  }
+
+  private static String key(LoadDriver.Result result) {
+    return result.name() + "." + result.mode();
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.3f", value);
+  }
+}
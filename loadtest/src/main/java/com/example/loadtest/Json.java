@@ -0,0 +1,119 @@
+package com.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Just enough JSON for the stand-in server: top-level string fields in, quoted strings out. */
+final class Json {
+
+  private Json() {}
+
+  /** Value of the first {@code "key": "..."} in the document, or null if absent or not a string. */
+  static String stringField(String json, String key) {
+    int at = valueStart(json, key);
+    if (at < 0 || at >= json.length() || json.charAt(at) != '"') {
+      return null;
+    }
+    var out = new StringBuilder();
+    parseString(json, at, out);
+    return out.toString();
+  }
+
+  /** Values of the first {@code "key": ["...", ...]} in the document; empty if absent. */
+  static List<String> stringArrayField(String json, String key) {
+    var values = new ArrayList<String>();
+    int at = valueStart(json, key);
+    if (at < 0 || at >= json.length() || json.charAt(at) != '[') {
+      return values;
+    }
+    at = skipWhitespace(json, at + 1);
+    while (at < json.length() && json.charAt(at) == '"') {
+      var out = new StringBuilder();
+      at = skipWhitespace(json, parseString(json, at, out));
+      values.add(out.toString());
+      if (at < json.length() && json.charAt(at) == ',') {
+        at = skipWhitespace(json, at + 1);
+      }
+    }
+    return values;
+  }
+
+  static String quote(String value) {
+    if (value == null) {
+      return "null";
+    }
+    var sb = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+        }
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  private static int valueStart(String json, String key) {
+    var needle = "\"" + key + "\"";
+    int from = 0;
+    while (true) {
+      int at = json.indexOf(needle, from);
+      if (at < 0) {
+        return -1;
+      }
+      int colon = skipWhitespace(json, at + needle.length());
+      if (colon < json.length() && json.charAt(colon) == ':') {
+        return skipWhitespace(json, colon + 1);
+      }
+      from = at + 1;
+    }
+  }
+
+  /** Parses the string literal at {@code at} into {@code out}; returns the index after it. */
+  private static int parseString(String json, int at, StringBuilder out) {
+    int i = at + 1;
+    while (i < json.length()) {
+      char c = json.charAt(i++);
+      if (c == '"') {
+        return i;
+      }
+      if (c != '\\' || i >= json.length()) {
+        out.append(c);
+        continue;
+      }
+      char e = json.charAt(i++);
+      switch (e) {
+        case 'n' -> out.append('\n');
+        case 'r' -> out.append('\r');
+        case 't' -> out.append('\t');
+        case 'b' -> out.append('\b');
+        case 'f' -> out.append('\f');
+        case 'u' -> {
+          if (i + 4 <= json.length()) {
+            out.append((char) Integer.parseInt(json.substring(i, i + 4), 16));
+            i += 4;
+          }
+        }
+        default -> out.append(e);
+      }
+    }
+    return i;
+  }
+
+  private static int skipWhitespace(String json, int at) {
+    while (at < json.length() && Character.isWhitespace(json.charAt(at))) {
+      at++;
+    }
+    return at;
+  }
+}
@@ -0,0 +1,245 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives one endpoint either closed-loop (N workers, each waiting for its response before sending
+ * again) or open-loop (fixed arrival rate regardless of response time). Open-loop latency is
+ * measured from each request's intended send time, so a stalled server is not hidden by a stalled
+ * driver. Only successful responses go into the latency histogram; failures and requests dropped
+ * at the in-flight cap are counted as errors, so fast failures cannot pull the percentiles down.
+ */
+public class LoadDriver {
+
+  /** Highest latency the histograms track; anything slower is clamped. */
+  private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+  private final HttpClient client;
+  private final Duration requestTimeout;
+
+  public LoadDriver(Duration requestTimeout) {
+    this.requestTimeout = requestTimeout;
+    this.client =
+        HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newCachedThreadPool(LoadTest::daemon))
+            .build();
+  }
+
+  /** Endpoint under test; {@code body} maps a request sequence number to a JSON payload. */
+  public record Target(String name, URI uri, LongFunction<String> body) {}
+
+  /**
+   * {@code histogram} holds successful latencies; {@code completed} is the number of successes
+   * that finished inside the measured {@code seconds}.
+   */
+  public record Result(
+      String name, String mode, Histogram histogram, long errors, long completed, double seconds) {
+
+    public long successes() {
+      return histogram.getTotalCount();
+    }
+
+    public long requests() {
+      return successes() + errors;
+    }
+
+    public double throughput() {
+      return seconds > 0 ? completed / seconds : 0;
+    }
+
+    public double errorRate() {
+      return requests() > 0 ? (double) errors / requests() : 0;
+    }
+
+    public double percentileMillis(double percentile) {
+      return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+  }
+
+  public Result closedLoop(Target target, int concurrency, Duration warmup, Duration duration)
+      throws InterruptedException {
+    var seq = new AtomicLong();
+    runClosed(target, concurrency, warmup, newHistogram(), new AtomicLong(), seq);
+    var histogram = newHistogram();
+    var errors = new AtomicLong();
+    long start = System.nanoTime();
+    runClosed(target, concurrency, duration, histogram, errors, seq);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    return new Result(
+        target.name(), "closed", histogram, errors.get(), histogram.getTotalCount(), seconds);
+  }
+
+  public Result openLoop(
+      Target target, double ratePerSecond, int maxInFlight, Duration warmup, Duration duration)
+      throws InterruptedException {
+    var seq = new AtomicLong();
+    runOpen(
+        target,
+        ratePerSecond,
+        maxInFlight,
+        warmup,
+        newHistogram(),
+        new AtomicLong(),
+        new AtomicLong(),
+        seq);
+    var histogram = newHistogram();
+    var errors = new AtomicLong();
+    var completed = new AtomicLong();
+    runOpen(target, ratePerSecond, maxInFlight, duration, histogram, errors, completed, seq);
+    // Throughput covers the scheduled window only; draining the tail afterwards is not counted.
+    double seconds = duration.toNanos() / 1e9;
+    return new Result(target.name(), "open", histogram, errors.get(), completed.get(), seconds);
+  }
+
+  private void runClosed(
+      Target target,
+      int concurrency,
+      Duration duration,
+      Histogram histogram,
+      AtomicLong errors,
+      AtomicLong seq)
+      throws InterruptedException {
+    if (duration.isZero()) {
+      return;
+    }
+    long deadline = System.nanoTime() + duration.toNanos();
+    var workers = new ArrayList<Thread>();
+    for (int w = 0; w < concurrency; w++) {
+      var worker =
+          new Thread(
+              () -> {
+                while (System.nanoTime() < deadline) {
+                  long sent = System.nanoTime();
+                  boolean ok = send(target, seq.getAndIncrement());
+                  record(histogram, errors, sent, ok);
+                }
+              },
+              "closed-loop-" + target.name() + "-" + w);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+    for (var worker : workers) {
+      worker.join();
+    }
+  }
+
+  private void runOpen(
+      Target target,
+      double ratePerSecond,
+      int maxInFlight,
+      Duration duration,
+      Histogram histogram,
+      AtomicLong errors,
+      AtomicLong completed,
+      AtomicLong seq)
+      throws InterruptedException {
+    if (duration.isZero()) {
+      return;
+    }
+    long intervalNanos = (long) (1e9 / ratePerSecond);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    var inFlight = new Semaphore(maxInFlight);
+    var pending = new ArrayList<CompletableFuture<?>>();
+    for (long i = 0; ; i++) {
+      long intended = start + i * intervalNanos;
+      if (intended >= end) {
+        break;
+      }
+      long wait = intended - System.nanoTime();
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+      if (!inFlight.tryAcquire()) {
+        // The driver would have to queue locally; count it rather than silently slowing down.
+        errors.incrementAndGet();
+        continue;
+      }
+      pending.add(
+          sendAsync(target, seq.getAndIncrement())
+              .whenComplete(
+                  (ok, err) -> {
+                    inFlight.release();
+                    boolean success = err == null && ok;
+                    record(histogram, errors, intended, success);
+                    if (success && System.nanoTime() < end) {
+                      completed.incrementAndGet();
+                    }
+                  }));
+    }
+    for (var future : pending) {
+      try {
+        future.join();
+      } catch (RuntimeException ignored) {
+        // already recorded as an error
+      }
+    }
+  }
+
+  private boolean send(Target target, long n) {
+    try {
+      var response = client.send(request(target, n), HttpResponse.BodyHandlers.ofString());
+      return succeeded(response);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private CompletableFuture<Boolean> sendAsync(Target target, long n) {
+    return client
+        .sendAsync(request(target, n), HttpResponse.BodyHandlers.ofString())
+        .thenApply(LoadDriver::succeeded);
+  }
+
+  private HttpRequest request(Target target, long n) {
+    return HttpRequest.newBuilder(target.uri())
+        .timeout(requestTimeout)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(target.body().apply(n)))
+        .build();
+  }
+
+  /**
+   * The backend answers 200 with a fallback string when the model call fails, and with "Ingested 0
+   * chunks" when every chunk failed to embed or store, so the body is checked as well as the
+   * status.
+   */
+  static boolean succeeded(HttpResponse<String> response) {
+    var body = response.body();
+    return response.statusCode() / 100 == 2
+        && body != null
+        && !body.contains("call failed")
+        && !body.contains("Ingested 0 chunks");
+  }
+
+  private static Histogram newHistogram() {
+    return new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+  }
+
+  private static void record(Histogram histogram, AtomicLong errors, long sentNanos, boolean ok) {
+    if (!ok) {
+      errors.incrementAndGet();
+      return;
+    }
+    long micros = Math.max(1, (System.nanoTime() - sentNanos) / 1000);
+    histogram.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+  }
+}
@@ -0,0 +1,324 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Entry point. Starts the model and vector-store stand-ins, waits for the backend (started
+ * separately against them) to report ready, seeds a corpus, then drives each endpoint closed-
+ * and/or open-loop and gates the results against the stored baseline. Exits 1 on regression, or
+ * when any scenario had no successful requests at all.
+ *
+ * <p>Options are {@code --key=value}; see {@link #DEFAULTS}.
+ */
+public final class LoadTest {
+
+  private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+  static {
+    DEFAULTS.put("target", "http://localhost:9200");
+    DEFAULTS.put("stubs", "true");
+    DEFAULTS.put("stubs-only", "false");
+    DEFAULTS.put("model-port", "11500");
+    DEFAULTS.put("redis-port", "6390");
+    DEFAULTS.put("dim", "768");
+    DEFAULTS.put("embed-latency", "15ms");
+    DEFAULTS.put("chat-latency", "250ms");
+    DEFAULTS.put("jitter", "50ms");
+    DEFAULTS.put("model-parallel", "4");
+    DEFAULTS.put("endpoints", "ask,agent,ingest");
+    DEFAULTS.put("mode", "both");
+    DEFAULTS.put("concurrency", "8");
+    DEFAULTS.put("rate", "10");
+    DEFAULTS.put("max-in-flight", "256");
+    DEFAULTS.put("warmup", "5s");
+    DEFAULTS.put("duration", "30s");
+    DEFAULTS.put("request-timeout", "60s");
+    DEFAULTS.put("ready-timeout", "180s");
+    DEFAULTS.put("seed-docs", "20");
+    DEFAULTS.put("baseline", "baseline.properties");
+    DEFAULTS.put("tolerance", "0.25");
+    DEFAULTS.put("record-baseline", "false");
+    DEFAULTS.put("report-dir", "target/loadtest");
+  }
+
+  private static final String[] TOPICS = {
+    "billing", "shipping", "returns", "warranty", "accounts", "security", "pricing", "support"
+  };
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    var opts = parse(args);
+    StubModelServer models = null;
+    StubVectorStore store = null;
+    try {
+      if (bool(opts, "stubs") || bool(opts, "stubs-only")) {
+        models =
+            new StubModelServer(
+                integer(opts, "model-port"),
+                integer(opts, "dim"),
+                duration(opts, "embed-latency").toMillis(),
+                duration(opts, "chat-latency").toMillis(),
+                duration(opts, "jitter").toMillis(),
+                integer(opts, "model-parallel"));
+        models.start();
+        store = new StubVectorStore(integer(opts, "redis-port"));
+        store.start();
+        System.out.printf(
+            "Stand-ins up. Start the backend with:%n"
+                + "  --ai.api.url=http://127.0.0.1:%d --spring.data.redis.host=127.0.0.1"
+                + " --spring.data.redis.port=%d%n",
+            models.port(),
+            store.port());
+        if (bool(opts, "stubs-only")) {
+          Thread.currentThread().join();
+        }
+      }
+
+      var target = URI.create(opts.get("target").replaceAll("/$", ""));
+      awaitReady(target, duration(opts, "ready-timeout"));
+      seed(target, integer(opts, "seed-docs"), duration(opts, "request-timeout"));
+
+      var results = run(opts, target);
+      var reportDir = Path.of(opts.get("report-dir"));
+      Files.createDirectories(reportDir);
+      for (var result : results) {
+        writeHistogram(reportDir, result);
+      }
+      var failed =
+          results.stream()
+              .filter(r -> r.successes() == 0)
+              .map(r -> r.name() + "." + r.mode())
+              .toList();
+      if (!failed.isEmpty()) {
+        System.out.println("FAILED: no successful requests in " + failed);
+        System.exit(1);
+      }
+
+      var baselinePath = Path.of(opts.get("baseline"));
+      if (bool(opts, "record-baseline")) {
+        Baseline.save(baselinePath, results);
+        System.out.println("Baseline written to " + baselinePath);
+        return;
+      }
+      var baseline = Baseline.load(baselinePath);
+      if (baseline.isEmpty()) {
+        System.out.println("No baseline at " + baselinePath + "; run with --record-baseline=true");
+        return;
+      }
+      var regressions = new ArrayList<String>();
+      for (var result : results) {
+        regressions.addAll(baseline.regressions(result, dbl(opts, "tolerance")));
+      }
+      if (!regressions.isEmpty()) {
+        System.out.println("REGRESSIONS:");
+        regressions.forEach(r -> System.out.println("  " + r));
+        System.exit(1);
+      }
+      System.out.println("Within tolerance of " + baselinePath);
+    } finally {
+      if (models != null) {
+        models.close();
+      }
+      if (store != null) {
+        store.close();
+      }
+    }
+  }
+
+  private static List<LoadDriver.Result> run(Map<String, String> opts, URI target)
+      throws InterruptedException {
+    var driver = new LoadDriver(duration(opts, "request-timeout"));
+    var mode = opts.get("mode").toLowerCase(Locale.ROOT);
+    var warmup = duration(opts, "warmup");
+    var length = duration(opts, "duration");
+    var results = new ArrayList<LoadDriver.Result>();
+    System.out.printf(
+        "%-8s %-6s %8s %7s %9s %9s %9s %9s %9s%n",
+        "endpoint", "mode", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+    for (var name : opts.get("endpoints").split(",")) {
+      var endpoint = target(target, name.trim());
+      if (!"open".equals(mode)) {
+        results.add(
+            print(driver.closedLoop(endpoint, integer(opts, "concurrency"), warmup, length)));
+      }
+      if (!"closed".equals(mode)) {
+        results.add(
+            print(
+                driver.openLoop(
+                    endpoint, dbl(opts, "rate"), integer(opts, "max-in-flight"), warmup, length)));
+      }
+    }
+    return results;
+  }
+
+  private static LoadDriver.Target target(URI base, String name) {
+    return switch (name) {
+      case "ask" ->
+          new LoadDriver.Target(
+              name,
+              base.resolve("/api/ask"),
+              n -> "{\"question\":" + Json.quote(question(n)) + "}");
+      case "agent" ->
+          new LoadDriver.Target(
+              name,
+              base.resolve("/api/agent/ask"),
+              n -> "{\"question\":" + Json.quote(question(n)) + "}");
+      case "ingest" ->
+          new LoadDriver.Target(
+              name,
+              base.resolve("/api/rag/ingest"),
+              n -> "{\"text\":" + Json.quote(document(n)) + ",\"source\":\"loadtest-" + n + "\"}");
+      default -> throw new IllegalArgumentException("Unknown endpoint: " + name);
+    };
+  }
+
+  private static String question(long n) {
+    var topic = TOPICS[(int) (n % TOPICS.length)];
+    return "What is the %s policy for case %d?".formatted(topic, n % 97);
+  }
+
+  /** About 1.2 KB, so each ingest produces a few overlapping chunks. */
+  private static String document(long n) {
+    var topic = TOPICS[(int) (n % TOPICS.length)];
+    var sb = new StringBuilder();
+    for (int i = 0; sb.length() < 1200; i++) {
+      sb.append("The %s policy, section %d.%d, covers case %d and its exceptions. "
+          .formatted(topic, n, i, (n + i) % 97));
+    }
+    return sb.toString();
+  }
+
+  private static void awaitReady(URI target, Duration timeout) throws InterruptedException {
+    var client = HttpClient.newHttpClient();
+    var readiness = HttpRequest.newBuilder(target.resolve("/actuator/health/readiness")).build();
+    long deadline = System.nanoTime() + timeout.toNanos();
+    System.out.println("Waiting for " + readiness.uri());
+    while (System.nanoTime() < deadline) {
+      try {
+        if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // not listening yet
+      }
+      Thread.sleep(1000);
+    }
+    throw new IllegalStateException("Backend not ready after " + timeout);
+  }
+
+  private static void seed(URI target, int docs, Duration timeout) throws Exception {
+    var client = HttpClient.newHttpClient();
+    var ingest = target(target, "ingest");
+    for (long n = 0; n < docs; n++) {
+      var request =
+          HttpRequest.newBuilder(ingest.uri())
+              .timeout(timeout)
+              .header("Content-Type", "application/json")
+              .POST(HttpRequest.BodyPublishers.ofString(ingest.body().apply(n)))
+              .build();
+      var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+      if (!LoadDriver.succeeded(response)) {
+        throw new IllegalStateException(
+            "Seeding failed at document %d: HTTP %d %s"
+                .formatted(n, response.statusCode(), response.body()));
+      }
+    }
+    System.out.println("Seeded " + docs + " documents");
+  }
+
+  private static LoadDriver.Result print(LoadDriver.Result r) {
+    System.out.printf(
+        Locale.ROOT,
+        "%-8s %-6s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+        r.name(),
+        r.mode(),
+        r.requests(),
+        r.errors(),
+        r.throughput(),
+        r.percentileMillis(50),
+        r.percentileMillis(90),
+        r.percentileMillis(99),
+        r.histogram().getMaxValue() / 1000.0);
+    return r;
+  }
+
+  /** HdrHistogram percentile distribution in milliseconds, loadable by the HdrHistogram plotter. */
+  private static void writeHistogram(Path dir, LoadDriver.Result result) throws IOException {
+    var file = dir.resolve(result.name() + "-" + result.mode() + ".hgrm");
+    try (var out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+      result.histogram().outputPercentileDistribution(out, 1000.0);
+    }
+  }
+
+  /** Thread factory for the stand-ins and driver, so a finished run never waits on idle pools. */
+  static Thread daemon(Runnable task) {
+    var thread = new Thread(task);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    var opts = new LinkedHashMap<>(DEFAULTS);
+    for (var arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Expected --key=value, got " + arg);
+      }
+      var eq = arg.indexOf('=');
+      var key = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+      if (!DEFAULTS.containsKey(key)) {
+        throw new IllegalArgumentException(
+            "Unknown option --" + key + "; known: " + DEFAULTS.keySet());
+      }
+      opts.put(key, eq < 0 ? "true" : arg.substring(eq + 1));
+    }
+    // Zero would divide by zero in the open-loop schedule or start no workers at all.
+    for (var key : List.of("rate", "concurrency", "max-in-flight")) {
+      if (!(Double.parseDouble(opts.get(key)) > 0)) {
+        throw new IllegalArgumentException("--" + key + " must be positive, got " + opts.get(key));
+      }
+    }
+    return opts;
+  }
+
+  private static boolean bool(Map<String, String> opts, String key) {
+    return Boolean.parseBoolean(opts.get(key));
+  }
+
+  private static int integer(Map<String, String> opts, String key) {
+    return Integer.parseInt(opts.get(key));
+  }
+
+  private static double dbl(Map<String, String> opts, String key) {
+    return Double.parseDouble(opts.get(key));
+  }
+
+  /** Accepts {@code 250ms}, {@code 30s} or {@code 2m}. */
+  private static Duration duration(Map<String, String> opts, String key) {
+    var raw = opts.get(key).trim().toLowerCase(Locale.ROOT);
+    if (raw.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(raw.substring(0, raw.length() - 2)));
+    }
+    if (raw.endsWith("s")) {
+      return Duration.ofSeconds(Long.parseLong(raw.substring(0, raw.length() - 1)));
+    }
+    if (raw.endsWith("m")) {
+      return Duration.ofMinutes(Long.parseLong(raw.substring(0, raw.length() - 1)));
+    }
+    return Duration.ofMillis(Long.parseLong(raw));
+  }
+}
@@ -0,0 +1,187 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for Ollama serving {@code /api/embeddings}, {@code /api/embed} and {@code /api/chat}.
+ * Vectors are a pure function of the input text, and every response waits {@code base + U[0,
+ * jitter)} ms. {@code parallel > 0} caps concurrent requests the way OLLAMA_NUM_PARALLEL does.
+ */
+public class StubModelServer implements AutoCloseable {
+
+  private final int dim;
+  private final long embedLatencyMs;
+  private final long chatLatencyMs;
+  private final long jitterMs;
+  private final Semaphore slots;
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool(LoadTest::daemon);
+
+  public StubModelServer(
+      int port, int dim, long embedLatencyMs, long chatLatencyMs, long jitterMs, int parallel)
+      throws IOException {
+    this.dim = dim;
+    this.embedLatencyMs = embedLatencyMs;
+    this.chatLatencyMs = chatLatencyMs;
+    this.jitterMs = jitterMs;
+    this.slots = parallel > 0 ? new Semaphore(parallel, true) : null;
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+    server.createContext("/api/embeddings", this::embeddings);
+    server.createContext("/api/embed", this::embed);
+    server.createContext("/api/chat", this::chat);
+    server.setExecutor(executor);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void embeddings(HttpExchange exchange) throws IOException {
+    var body = read(exchange);
+    var prompt = Json.stringField(body, "prompt");
+    var model = Json.stringField(body, "model");
+    respond(
+        exchange,
+        embedLatencyMs,
+        "{\"model\":" + Json.quote(model) + ",\"embedding\":" + vectorJson(prompt) + "}");
+  }
+
+  private void embed(HttpExchange exchange) throws IOException {
+    var body = read(exchange);
+    var model = Json.stringField(body, "model");
+    var inputs = Json.stringArrayField(body, "input");
+    if (inputs.isEmpty()) {
+      var single = Json.stringField(body, "input");
+      if (single != null) {
+        inputs = List.of(single);
+      }
+    }
+    var vectors = new ArrayList<String>();
+    for (var input : inputs) {
+      vectors.add(vectorJson(input));
+    }
+    respond(
+        exchange,
+        embedLatencyMs,
+        "{\"model\":" + Json.quote(model) + ",\"embeddings\":[" + String.join(",", vectors) + "]}");
+  }
+
+  private void chat(HttpExchange exchange) throws IOException {
+    var body = read(exchange);
+    var model = Json.stringField(body, "model");
+    // An empty message list is Ollama's "load the model" request.
+    if (body.replaceAll("\\s", "").contains("\"messages\":[]")) {
+      send(
+          exchange,
+          "{\"model\":" + Json.quote(model)
+              + ",\"message\":{\"role\":\"assistant\",\"content\":\"\"},"
+              + "\"done_reason\":\"load\",\"done\":true}");
+      return;
+    }
+    var answer = "Stub answer " + Integer.toHexString(body.hashCode()) + ".";
+    respond(
+        exchange,
+        chatLatencyMs,
+        "{\"model\":" + Json.quote(model) + ",\"message\":{\"role\":\"assistant\",\"content\":"
+            + Json.quote(answer) + "},\"done\":true}");
+  }
+
+  /** Unit-length vector seeded from the text, so equal inputs always embed identically. */
+  float[] vector(String text) {
+    var random = new SplittableRandom(seed(text == null ? "" : text));
+    var vec = new float[dim];
+    double norm = 0;
+    for (int i = 0; i < dim; i++) {
+      vec[i] = (float) (random.nextDouble() * 2 - 1);
+      norm += vec[i] * vec[i];
+    }
+    var scale = (float) (1 / Math.sqrt(norm));
+    for (int i = 0; i < dim; i++) {
+      vec[i] *= scale;
+    }
+    return vec;
+  }
+
+  private String vectorJson(String text) {
+    var vec = vector(text);
+    var sb = new StringBuilder(dim * 12).append('[');
+    for (int i = 0; i < vec.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(vec[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  /** Simulates {@code latencyMs + U[0, jitter)} of model time, then sends the reply. */
+  private void respond(HttpExchange exchange, long latencyMs, String json) throws IOException {
+    try {
+      if (slots != null) {
+        slots.acquire();
+      }
+      try {
+        var delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0);
+        if (delay > 0) {
+          Thread.sleep(delay);
+        }
+      } finally {
+        if (slots != null) {
+          slots.release();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      exchange.close();
+      return;
+    }
+    send(exchange, json);
+  }
+
+  /** Replies immediately, bypassing simulated latency and the parallel slots. */
+  private static void send(HttpExchange exchange, String json) throws IOException {
+    var bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (var out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static String read(HttpExchange exchange) throws IOException {
+    try (var in = exchange.getRequestBody()) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static long seed(String text) {
+    // FNV-1a over UTF-8; String.hashCode collides too easily for 64-bit seeds.
+    long h = 0xcbf29ce484222325L;
+    for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+}
@@ -0,0 +1,392 @@
+package com.example.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for Redis Stack, speaking RESP2 on a local port. It covers the commands the
+ * backend issues: PING, INFO, CLIENT, SELECT, HSET, FT.INFO, FT.CREATE and KNN-only FT.SEARCH over
+ * FLOAT32 vectors with cosine distance. Search is brute force, which is fine at load-test corpus
+ * sizes.
+ */
+public class StubVectorStore implements AutoCloseable {
+
+  private static final Pattern KNN = Pattern.compile("KNN\\s+(\\d+)\\s+@(\\w+)\\s+\\$(\\w+)");
+
+  private final ServerSocket serverSocket;
+  private final ExecutorService executor = Executors.newCachedThreadPool(LoadTest::daemon);
+  private final Map<String, Map<String, byte[]>> hashes = new ConcurrentHashMap<>();
+  private final Map<String, Index> indexes = new ConcurrentHashMap<>();
+
+  public StubVectorStore(int port) throws IOException {
+    this.serverSocket = new ServerSocket(port, 512, InetAddress.getLoopbackAddress());
+  }
+
+  public void start() {
+    executor.submit(this::acceptLoop);
+  }
+
+  public int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    executor.shutdownNow();
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        var socket = serverSocket.accept();
+        executor.submit(() -> serve(socket));
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (socket;
+        var in = new BufferedInputStream(socket.getInputStream());
+        var out = new BufferedOutputStream(socket.getOutputStream())) {
+      socket.setTcpNoDelay(true);
+      while (true) {
+        var args = readCommand(in);
+        try {
+          dispatch(args, out);
+        } catch (RuntimeException e) {
+          error(out, "ERR " + e.getMessage());
+        }
+        // Lettuce pipelines; only flush once nothing else is waiting to be read.
+        if (in.available() == 0) {
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      // client went away
+    }
+  }
+
+  private void dispatch(List<byte[]> args, OutputStream out) throws IOException {
+    var name = str(args.get(0)).toUpperCase(Locale.ROOT);
+    switch (name) {
+      case "PING" -> simple(out, "PONG");
+      case "CLIENT", "SELECT" -> simple(out, "OK");
+      case "INFO" -> bulk(out, bytes("# Server\r\nredis_version:7.2.0\r\n"));
+      case "HSET" -> hset(args, out);
+      case "FT.CREATE" -> ftCreate(args, out);
+      case "FT.INFO" -> ftInfo(args, out);
+      case "FT.SEARCH" -> ftSearch(args, out);
+      default -> error(out, "ERR unknown command '" + name + "'");
+    }
+  }
+
+  private void hset(List<byte[]> args, OutputStream out) throws IOException {
+    if (args.size() < 4 || args.size() % 2 != 0) {
+      error(out, "ERR wrong number of arguments for 'hset' command");
+      return;
+    }
+    var hash = hashes.computeIfAbsent(str(args.get(1)), k -> new ConcurrentHashMap<>());
+    int added = 0;
+    for (int i = 2; i < args.size(); i += 2) {
+      if (hash.put(str(args.get(i)), args.get(i + 1)) == null) {
+        added++;
+      }
+    }
+    integer(out, added);
+  }
+
+  private void ftCreate(List<byte[]> args, OutputStream out) throws IOException {
+    var name = str(args.get(1));
+    var prefixes = new ArrayList<String>();
+    var fields = new ArrayList<String[]>();
+    String vectorField = null;
+    int dim = -1;
+    int i = 2;
+    while (i < args.size()) {
+      var token = str(args.get(i)).toUpperCase(Locale.ROOT);
+      if ("PREFIX".equals(token)) {
+        int n = Integer.parseInt(str(args.get(i + 1)));
+        for (int j = 0; j < n; j++) {
+          prefixes.add(str(args.get(i + 2 + j)));
+        }
+        i += 2 + n;
+      } else if ("SCHEMA".equals(token)) {
+        i++;
+        while (i + 1 < args.size()) {
+          var field = str(args.get(i));
+          var type = str(args.get(i + 1)).toUpperCase(Locale.ROOT);
+          fields.add(new String[] {field, type});
+          i += 2;
+          if ("VECTOR".equals(type)) {
+            vectorField = field;
+            int n = Integer.parseInt(str(args.get(i + 1)));
+            for (int j = i + 2; j + 1 < i + 2 + n; j += 2) {
+              if ("DIM".equalsIgnoreCase(str(args.get(j)))) {
+                dim = Integer.parseInt(str(args.get(j + 1)));
+              }
+            }
+            i += 2 + n;
+          }
+        }
+      } else {
+        i++;
+      }
+    }
+    if (indexes.putIfAbsent(name, new Index(name, prefixes, fields, vectorField, dim)) != null) {
+      error(out, "Index already exists");
+      return;
+    }
+    simple(out, "OK");
+  }
+
+  private void ftInfo(List<byte[]> args, OutputStream out) throws IOException {
+    var index = indexes.get(str(args.get(1)));
+    if (index == null) {
+      error(out, "Unknown index name");
+      return;
+    }
+    var attributes = new ArrayList<Object>();
+    for (var field : index.fields()) {
+      var attr = new ArrayList<Object>();
+      attr.addAll(List.of("identifier", field[0], "attribute", field[0], "type", field[1]));
+      if (field[0].equals(index.vectorField())) {
+        attr.addAll(List.of("algorithm", "HNSW", "data_type", "FLOAT32"));
+        attr.addAll(List.of("dim", (long) index.dim(), "distance_metric", "COSINE"));
+      }
+      attributes.add(attr);
+    }
+    long docs = hashes.keySet().stream().filter(index::covers).count();
+    array(out, List.of("index_name", index.name(), "attributes", attributes, "num_docs", docs));
+  }
+
+  private void ftSearch(List<byte[]> args, OutputStream out) throws IOException {
+    var index = indexes.get(str(args.get(1)));
+    if (index == null) {
+      error(out, "Unknown index name");
+      return;
+    }
+    var matcher = KNN.matcher(str(args.get(2)));
+    if (!matcher.find()) {
+      error(out, "ERR only KNN queries are supported by the stand-in");
+      return;
+    }
+    int k = Integer.parseInt(matcher.group(1));
+    var field = matcher.group(2);
+    var param = matcher.group(3);
+    byte[] blob = null;
+    List<String> returnFields = null;
+    for (int i = 3; i < args.size(); i++) {
+      var token = str(args.get(i)).toUpperCase(Locale.ROOT);
+      if ("PARAMS".equals(token)) {
+        int n = Integer.parseInt(str(args.get(i + 1)));
+        for (int j = i + 2; j + 1 < i + 2 + n; j += 2) {
+          if (param.equals(str(args.get(j)))) {
+            blob = args.get(j + 1);
+          }
+        }
+        i += 1 + n;
+      } else if ("RETURN".equals(token)) {
+        int n = Integer.parseInt(str(args.get(i + 1)));
+        returnFields = new ArrayList<>();
+        for (int j = 0; j < n; j++) {
+          returnFields.add(str(args.get(i + 2 + j)));
+        }
+        i += 1 + n;
+      } else if ("DIALECT".equals(token) || "LIMIT".equals(token)) {
+        i += "LIMIT".equals(token) ? 2 : 1;
+      }
+    }
+    if (blob == null) {
+      error(out, "No such parameter `" + param + "`");
+      return;
+    }
+    var query = floats(blob);
+    var hits = new ArrayList<Hit>();
+    for (var entry : hashes.entrySet()) {
+      if (!index.covers(entry.getKey())) {
+        continue;
+      }
+      var stored = entry.getValue().get(field);
+      if (stored == null || stored.length != blob.length) {
+        continue;
+      }
+      hits.add(new Hit(entry.getKey(), entry.getValue(), cosineDistance(query, floats(stored))));
+    }
+    hits.sort(Comparator.comparingDouble(Hit::distance));
+    var top = hits.subList(0, Math.min(k, hits.size()));
+
+    var reply = new ArrayList<Object>();
+    reply.add((long) top.size());
+    for (var hit : top) {
+      reply.add(hit.key());
+      var values = new ArrayList<Object>();
+      if (returnFields == null) {
+        values.add("__" + field + "_score");
+        values.add(Float.toString(hit.distance()));
+        hit.fields().forEach((f, v) -> {
+          values.add(f);
+          values.add(v);
+        });
+      } else {
+        for (var f : returnFields) {
+          var v = hit.fields().get(f);
+          if (v != null) {
+            values.add(f);
+            values.add(v);
+          }
+        }
+      }
+      reply.add(values);
+    }
+    array(out, reply);
+  }
+
+  private static float cosineDistance(float[] a, float[] b) {
+    double dot = 0;
+    double na = 0;
+    double nb = 0;
+    for (int i = 0; i < a.length; i++) {
+      dot += a[i] * b[i];
+      na += a[i] * a[i];
+      nb += b[i] * b[i];
+    }
+    if (na == 0 || nb == 0) {
+      return 1f;
+    }
+    return (float) (1 - dot / Math.sqrt(na * nb));
+  }
+
+  private static float[] floats(byte[] blob) {
+    var buf = ByteBuffer.wrap(blob).order(ByteOrder.LITTLE_ENDIAN);
+    var vec = new float[blob.length / 4];
+    for (int i = 0; i < vec.length; i++) {
+      vec[i] = buf.getFloat();
+    }
+    return vec;
+  }
+
+  // --- RESP2 framing ---
+
+  private static List<byte[]> readCommand(InputStream in) throws IOException {
+    int type = in.read();
+    if (type < 0) {
+      throw new EOFException();
+    }
+    if (type != '*') {
+      // inline command, e.g. "PING\r\n" from redis-cli or telnet
+      var line = ((char) type + readLine(in)).trim();
+      var args = new ArrayList<byte[]>();
+      for (var part : line.split("\\s+")) {
+        args.add(bytes(part));
+      }
+      return args;
+    }
+    int count = Integer.parseInt(readLine(in));
+    var args = new ArrayList<byte[]>(count);
+    for (int i = 0; i < count; i++) {
+      if (in.read() != '$') {
+        throw new IOException("Expected bulk string");
+      }
+      int len = Integer.parseInt(readLine(in));
+      args.add(in.readNBytes(len));
+      in.read();
+      in.read();
+    }
+    return args;
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    var line = new ByteArrayOutputStream();
+    int c;
+    while ((c = in.read()) != '\r') {
+      if (c < 0) {
+        throw new EOFException();
+      }
+      line.write(c);
+    }
+    in.read();
+    return line.toString(StandardCharsets.UTF_8);
+  }
+
+  private static void simple(OutputStream out, String value) throws IOException {
+    out.write(bytes("+" + value + "\r\n"));
+  }
+
+  private static void error(OutputStream out, String message) throws IOException {
+    out.write(bytes("-" + message + "\r\n"));
+  }
+
+  private static void integer(OutputStream out, long value) throws IOException {
+    out.write(bytes(":" + value + "\r\n"));
+  }
+
+  private static void bulk(OutputStream out, byte[] value) throws IOException {
+    out.write(bytes("$" + value.length + "\r\n"));
+    out.write(value);
+    out.write(bytes("\r\n"));
+  }
+
+  private static void array(OutputStream out, List<?> items) throws IOException {
+    out.write(bytes("*" + items.size() + "\r\n"));
+    for (var item : items) {
+      if (item instanceof List<?> nested) {
+        array(out, nested);
+      } else if (item instanceof Long n) {
+        integer(out, n);
+      } else if (item instanceof byte[] b) {
+        bulk(out, b);
+      } else {
+        bulk(out, bytes(String.valueOf(item)));
+      }
+    }
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String str(byte[] b) {
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  private record Index(
+      String name, List<String> prefixes, List<String[]> fields, String vectorField, int dim) {
+
+    boolean covers(String key) {
+      if (prefixes.isEmpty()) {
+        return true;
+      }
+      for (var prefix : prefixes) {
+        if (key.startsWith(prefix)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private record Hit(String key, Map<String, byte[]> fields, float distance) {}
+}